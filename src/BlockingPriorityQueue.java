@@ -0,0 +1,172 @@
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded blocking wrapper around PriorityQueue. Producers block while the queue is full and consumers block
+ * while it is empty. ReentrantLock and Condition are used instead of synchronized, so waiting virtual threads
+ * are unmounted rather than pinned to their carrier threads. Null values are not allowed.
+ */
+public class BlockingPriorityQueue<T extends Comparable<T>> {
+
+    public final int capacity;
+    private final PriorityQueue<T> queue;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private int size;
+
+    BlockingPriorityQueue(Comparator<T> comparator)
+    { this(comparator, Integer.MAX_VALUE); }
+
+    BlockingPriorityQueue(Comparator<T> comparator, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        this.queue = new PriorityQueue<>(comparator);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Inserts the item, waiting for free space if the queue is full.
+     */
+    public void offer(T item) throws InterruptedException {
+        Objects.requireNonNull(item, "Null values are prohibited");
+        lock.lockInterruptibly();
+        try {
+            while (size == capacity)
+                notFull.await();
+            enqueue(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the item, waiting up to the specified time for free space if the queue is full.
+     * @return false if the time ran out before the item could be inserted
+     */
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item, "Null values are prohibited");
+        long nanosLeft = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == capacity) {
+                if (nanosLeft <= 0)
+                    return false;
+                nanosLeft = notFull.awaitNanos(nanosLeft);
+            }
+            enqueue(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the smallest item, waiting for one to appear if the queue is empty.
+     */
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0)
+                notEmpty.await();
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the smallest item, waiting up to the specified time for one to appear.
+     * @return null if the time ran out before an item became available
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanosLeft = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanosLeft <= 0)
+                    return null;
+                nanosLeft = notEmpty.awaitNanos(nanosLeft);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to maxElements smallest items into the target collection in ascending order. The whole batch is
+     * extracted under a single lock acquisition, so consumers pay for the lock once per batch instead of once
+     * per item. Does not wait if the queue is empty. If the target throws, the item it has refused stays in
+     * the queue, while the items transferred before it stay in the target.
+     * @return the number of items transferred
+     */
+    public int drainTo(Collection<? super T> target, int maxElements) {
+        Objects.requireNonNull(target, "The target collection must not be null");
+        if (maxElements <= 0)
+            return 0;
+
+        lock.lock();
+        int transferred = 0;
+        try {
+            while (size > 0  &&  transferred < maxElements) {
+                T item = queue.poll();
+                size--;
+                try {
+                    target.add(item);
+                } catch (RuntimeException e) {
+                    queue.offer(item);    // the target has refused the item, so it must not be lost
+                    size++;
+                    throw e;
+                }
+                transferred++;
+            }
+            return transferred;
+        } finally {
+            if (transferred > 0)
+                notFull.signalAll();
+            lock.unlock();
+        }
+    }
+
+    public int drainTo(Collection<? super T> target)
+    { return drainTo(target, Integer.MAX_VALUE); }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEmpty()
+    { return size() == 0; }
+
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(T item) {
+        queue.offer(item);
+        size++;
+        notEmpty.signal();
+    }
+
+    private T dequeue() {
+        T item = queue.poll();
+        size--;
+        notFull.signal();
+        return item;
+    }
+}
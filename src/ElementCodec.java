@@ -0,0 +1,68 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts collection elements to bytes and back for the binary snapshots made by writeTo() and readFrom().
+ * The snapshot stores the encoded length before every element, so decode() is given a buffer that holds exactly
+ * the bytes produced by encode().
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * @return the exact number of bytes encode() is going to write for this value
+     */
+    int encodedSize(T value);
+
+    void encode(T value, ByteBuffer buffer);
+
+    T decode(ByteBuffer buffer);
+
+    ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+        @Override
+        public int encodedSize(Integer value)
+        { return Integer.BYTES; }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer)
+        { buffer.putInt(value); }
+
+        @Override
+        public Integer decode(ByteBuffer buffer)
+        { return buffer.getInt(); }
+    };
+
+    ElementCodec<Long> LONG = new ElementCodec<Long>() {
+        @Override
+        public int encodedSize(Long value)
+        { return Long.BYTES; }
+
+        @Override
+        public void encode(Long value, ByteBuffer buffer)
+        { buffer.putLong(value); }
+
+        @Override
+        public Long decode(ByteBuffer buffer)
+        { return buffer.getLong(); }
+    };
+
+    /**
+     * Stores strings as UTF-8. Encoding happens twice per string (for the size and for the bytes), which is the
+     * price of not buffering every string separately.
+     */
+    ElementCodec<String> STRING = new ElementCodec<String>() {
+        @Override
+        public int encodedSize(String value)
+        { return value.getBytes(StandardCharsets.UTF_8).length; }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer)
+        { buffer.put(value.getBytes(StandardCharsets.UTF_8)); }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
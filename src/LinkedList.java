@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 
 /**
@@ -10,7 +13,7 @@ public class LinkedList<T> implements Iterable<T> {
     protected final Node<T> head = new Node<>(null);
     protected final Node<T> tail = new Node<>(null);
     { head.next = tail;  tail.previous = head; }
-    protected int modCountForCachedHash;
+    protected int modCountForCachedHash = -1;
     protected int cachedHash;
     protected int modCount;
     protected int size;
@@ -51,8 +54,7 @@ public class LinkedList<T> implements Iterable<T> {
                 throw new NoSuchElementException("This iteration has no more elements");
 
             removalAlreadyOccurred = false;
-            currentNode = currentNode.next;
-            return currentNode.value;
+            return advance();
         }
 
         @Override
@@ -65,13 +67,24 @@ public class LinkedList<T> implements Iterable<T> {
                 throw new ConcurrentModificationException("This iterator is invalid. The list must not be changed " +
                         "during iteration by means other than this iterator");
 
-            currentNode.previous.next = currentNode.next;
-            currentNode.next.previous = currentNode.previous;
+            removeCurrent();
             removalAlreadyOccurred = true;
             expectedModCount++;
-            modCount++;
-            size--;
         }
+
+        /**
+         * Moves to the next element once next() has made sure there is one.
+         */
+        protected T advance() {
+            currentNode = currentNode.next;
+            return currentNode.value;
+        }
+
+        /**
+         * Removes the element last returned by next() once remove() has made sure it is allowed.
+         */
+        protected void removeCurrent()
+        { unlink(currentNode); }
     }
 
     @Override
@@ -106,16 +119,7 @@ public class LinkedList<T> implements Iterable<T> {
     public void insert(int index, T newValue) {
         Objects.requireNonNull(newValue, "Null values are prohibited");
 
-        Node<T> right = getNodeByIndex(index);
-        Node<T> left = right.previous;
-        Node<T> newNode = new Node<>(newValue);
-
-        left.next = newNode;
-        newNode.previous = left;
-        right.previous = newNode;
-        newNode.next = right;
-        size++;
-        modCount++;
+        linkBefore(new Node<>(newValue), getNodeByIndex(index));
     }
 
     public T remove(int index) {
@@ -123,13 +127,7 @@ public class LinkedList<T> implements Iterable<T> {
             throw new IllegalArgumentException("Invalid index: " + index);
 
         Node<T> removed = getNodeByIndex(index);
-        Node<T> left = removed.previous;
-        Node<T> right = removed.next;
-
-        left.next = right;
-        right.previous = left;
-        size--;
-        modCount++;
+        unlink(removed);
         return removed.value;
     }
 
@@ -149,6 +147,169 @@ public class LinkedList<T> implements Iterable<T> {
     public int size()
     { return size; }
 
+    /**
+     * Moves all nodes of the other list to the end of this one in constant time. The other list becomes empty.
+     * If both lists have valid cached hashes, the hash of the joined list is derived from them without iteration.
+     */
+    public void append(LinkedList<T> that) {
+        Objects.requireNonNull(that, "The appended list must not be null");
+        if (that == this)
+            throw new IllegalArgumentException("A list cannot be appended to itself");
+        if (!this.nodesAreTransferable()  ||  !that.nodesAreTransferable())
+            throw new UnsupportedOperationException("The nodes of these lists cannot be transferred");
+        if (that.size == 0)
+            return;
+
+        boolean hashCanBeCombined = this.modCountForCachedHash == this.modCount
+                &&  that.modCountForCachedHash == that.modCount;
+        int combinedHash = hashCanBeCombined ? combineHashes(this.cachedHash, that.cachedHash, that.size) : 0;
+
+        transferNodesFrom(that);
+        if (hashCanBeCombined) {
+            this.cachedHash = combinedHash;
+            this.modCountForCachedHash = this.modCount;
+        }
+    }
+
+    /**
+     * Moves all nodes of a nonempty list to the end of this one without any checks.
+     */
+    protected void transferNodesFrom(LinkedList<T> that) {
+        Node<T> first = that.head.next;
+        Node<T> last = that.tail.previous;
+        that.head.next = that.tail;
+        that.tail.previous = that.head;
+        Node<T> left = this.tail.previous;
+        left.next = first;
+        first.previous = left;
+        last.next = this.tail;
+        this.tail.previous = last;
+
+        this.size += that.size;
+        this.modCount++;
+        that.size = 0;
+        that.modCount++;
+    }
+
+    /**
+     * Cuts this list in two in constant time once the split point is found.
+     * @return a new list holding the elements from the index onwards. This list keeps the elements before it.
+     */
+    public LinkedList<T> splitAt(int index)
+    { return removeRange(index, size); }
+
+    /**
+     * Extracts the elements in the range [fromIndex, toIndex) into a new list without copying them.
+     * @return a new list holding the extracted elements in their original order
+     */
+    public LinkedList<T> removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0  ||  toIndex > size  ||  fromIndex > toIndex)
+            throw new IllegalArgumentException("Invalid range: [" + fromIndex + ", " + toIndex + ")");
+        if (!nodesAreTransferable())
+            throw new UnsupportedOperationException("The nodes of this list cannot be transferred");
+
+        LinkedList<T> extracted = new LinkedList<>();
+        if (fromIndex == toIndex)
+            return extracted;
+
+        int extractedSize = toIndex - fromIndex;
+        Node<T> first = getNodeByIndex(fromIndex);
+        Node<T> last;
+        if (extractedSize -1 <= Math.min(toIndex, size - toIndex)) {
+            last = first;
+            for (int step = 1; step < extractedSize; ++step)
+                last = last.next;
+        } else {
+            last = getNodeByIndex(toIndex).previous;    // a list end is closer than the start of the range
+        }
+        Node<T> left = first.previous;
+        Node<T> right = last.next;
+        left.next = right;
+        right.previous = left;
+
+        extracted.head.next = first;
+        first.previous = extracted.head;
+        extracted.tail.previous = last;
+        last.next = extracted.tail;
+
+        extracted.size = extractedSize;
+        extracted.modCount++;
+        this.size -= extractedSize;
+        this.modCount++;
+        return extracted;
+    }
+
+    /**
+     * Writes a binary snapshot of this list to the channel. The channel is not closed.
+     */
+    public void writeTo(WritableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        SnapshotWriter<T> writer = new SnapshotWriter<>(channel, codec);
+        writer.writeHeader(SnapshotWriter.LINKED_LIST);
+        writer.writeCount(size);
+        for (Node<T> currentNode = head.next; currentNode != tail; currentNode = currentNode.next)
+            writer.writeElement(currentNode.value);
+        writer.finish();
+    }
+
+    /**
+     * Appends the elements of a snapshot made by writeTo(). The nodes are linked directly one after another into
+     * a separate list, which is appended at once when the whole snapshot has been read, so the restoration takes
+     * linear time and adds nothing if the snapshot is broken. The channel is left right after the snapshot.
+     */
+    public void readFrom(ReadableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        SnapshotReader<T> reader = new SnapshotReader<>(channel, codec);
+        reader.readHeader(SnapshotWriter.LINKED_LIST);
+        LinkedList<T> restored = new LinkedList<>();
+        for (int elementsLeft = reader.readCount(); elementsLeft > 0; --elementsLeft)
+            restored.linkBefore(new Node<>(reader.readElement()), restored.tail);
+        reader.finish();
+        append(restored);
+    }
+
+    /**
+     * Subclasses whose nodes do not map one-to-one onto elements must not exchange them with other lists.
+     */
+    protected boolean nodesAreTransferable()
+    { return true; }
+
+    /**
+     * Given the hashes of lists A and B, computes the hash of A followed by B: hash(A)*31^|B| + hash(B) - 31^|B|.
+     * The integer overflow matches the one in hashCode().
+     */
+    private static int combineHashes(int firstHash, int secondHash, int secondSize) {
+        int power = 1;
+        int base = 31;
+        for (int exponent = secondSize; exponent > 0; exponent >>= 1) {
+            if ((exponent & 1) == 1)
+                power *= base;
+            base *= base;
+        }
+        return firstHash*power + secondHash - power;
+    }
+
+    /**
+     * Links a new node right before the given one. The given node may be the tail sentinel.
+     */
+    protected void linkBefore(Node<T> newNode, Node<T> right) {
+        Node<T> left = right.previous;
+        left.next = newNode;
+        newNode.previous = left;
+        right.previous = newNode;
+        newNode.next = right;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Excludes the node from the list. The node keeps its own links, so an iterator standing on it can move on.
+     */
+    protected void unlink(Node<T> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        size--;
+        modCount++;
+    }
+
     protected Node<T> getNodeByIndex(int index) {
         if (index < 0  ||  index > size)
             throw new IllegalArgumentException("Invalid index: " + index);
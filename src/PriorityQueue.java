@@ -1,3 +1,7 @@
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Comparator;
 import java.util.Iterator;
 
@@ -141,6 +145,44 @@ public class PriorityQueue<T extends Comparable<T>> {
     public boolean isEmpty()
     { return heap.size == 0; }
 
+    /**
+     * Writes a binary snapshot of this queue to the channel. Every tree is stored as its order followed by its
+     * values in preorder. The children of a binomial tree node have the orders 0, 1, 2... in the order they are
+     * stored, so nothing else is needed to rebuild the shape. The channel is not closed.
+     */
+    public void writeTo(WritableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        SnapshotWriter<T> writer = new SnapshotWriter<>(channel, codec);
+        writer.writeHeader(SnapshotWriter.PRIORITY_QUEUE);
+        writer.writeCount(heap.size);
+        for (Tree tree : heap) {
+            writer.writeCount(tree.getOrder());
+            writeNode(tree.root, writer);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Adds the elements of a snapshot made by writeTo() to this queue. The binomial trees are rebuilt node by node
+     * in linear time and then melded into this queue at once instead of offering every element separately.
+     * Nothing is added if the snapshot is broken or violates the heap order for this queue's comparator.
+     * The channel is left right after the snapshot.
+     */
+    public void readFrom(ReadableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        SnapshotReader<T> reader = new SnapshotReader<>(channel, codec);
+        reader.readHeader(SnapshotWriter.PRIORITY_QUEUE);
+        PriorityQueue<T> restored = new PriorityQueue<>(comparator);
+        int previousOrder = -1;
+        for (int treesLeft = reader.readCount(); treesLeft > 0; --treesLeft) {
+            int order = reader.readCount();
+            if (order <= previousOrder  ||  order >= Integer.SIZE)
+                throw new StreamCorruptedException("Invalid binomial tree order: " + order);
+            restored.heap.add(new Tree(readNode(order, null, reader)));
+            previousOrder = order;
+        }
+        reader.finish();
+        offer(restored);
+    }
+
     /**
      * Merges two heaps into one. The amount of trees in each binomial heap is not more than log2(N), where N is
      * the number of elements in the heap, so the recursion here is shallow.
@@ -173,6 +215,21 @@ public class PriorityQueue<T extends Comparable<T>> {
         }
     }
 
+    private void writeNode(Node<T> node, SnapshotWriter<T> writer) throws IOException {
+        writer.writeElement(node.value);
+        for (Node<T> child : node.children)
+            writeNode(child, writer);
+    }
+
+    private Node<T> readNode(int order, Node<T> parent, SnapshotReader<T> reader) throws IOException {
+        Node<T> node = new Node<>(reader.readElement());
+        if (parent != null  &&  comparator.compare(node.value, parent.value) < 0)
+            throw new StreamCorruptedException("The snapshot violates the heap order for this queue's comparator");
+        for (int childOrder = 0; childOrder < order; ++childOrder)
+            node.children.add(readNode(childOrder, node, reader));
+        return node;
+    }
+
     private int min(int... numbers) {
         if (numbers.length == 0)
             throw new IllegalArgumentException("No arguments passed to min()");
@@ -0,0 +1,133 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the binary snapshot format described in SnapshotWriter. The channel is never read beyond the current chunk,
+ * so once finish() has returned, the channel is positioned right after the snapshot.
+ */
+class SnapshotReader<T> {
+
+    private final ReadableByteChannel channel;
+    private final ElementCodec<T> codec;
+    private final ByteBuffer buffer = ByteBuffer.allocate(SnapshotWriter.BUFFER_SIZE);
+    private final ByteBuffer chunkLengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+    private int chunkBytesLeft;
+    { buffer.limit(0); }
+
+    SnapshotReader(ReadableByteChannel channel, ElementCodec<T> codec) {
+        this.channel = channel;
+        this.codec = codec;
+    }
+
+    void readHeader(byte expectedKind) throws IOException {
+        ensureAvailable(Integer.BYTES + 1);
+        if (buffer.getInt() != SnapshotWriter.MAGIC)
+            throw new StreamCorruptedException("The data is not a collection snapshot");
+        byte kind = buffer.get();
+        if (kind != expectedKind)
+            throw new StreamCorruptedException("Snapshot kind " + kind + " found where " + expectedKind +
+                    " was expected");
+    }
+
+    int readCount() throws IOException {
+        int count = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            ensureAvailable(1);
+            byte nextByte = buffer.get();
+            if (shift == 28  &&  (nextByte & 0x70) != 0)
+                throw new StreamCorruptedException("A count does not fit into an int");
+            count |= (nextByte & 0x7F) << shift;
+            if ((nextByte & 0x80) == 0) {
+                if (count < 0)
+                    throw new StreamCorruptedException("Negative count: " + count);
+                return count;
+            }
+        }
+        throw new StreamCorruptedException("A count is longer than 5 bytes");
+    }
+
+    T readElement() throws IOException {
+        int encodedSize = readCount();
+        ByteBuffer encoded;
+        if (encodedSize > buffer.capacity()) {
+            encoded = ByteBuffer.allocate(encodedSize);
+            int buffered = Math.min(buffer.remaining(), encodedSize);
+            ByteBuffer bufferedPart = buffer.slice();
+            bufferedPart.limit(buffered);
+            encoded.put(bufferedPart);
+            buffer.position(buffer.position() + buffered);
+            fill(encoded, encodedSize);
+            encoded.flip();
+        } else {
+            ensureAvailable(encodedSize);
+            encoded = buffer.slice();
+            encoded.limit(encodedSize);
+            buffer.position(buffer.position() + encodedSize);
+        }
+
+        T value;
+        try {
+            value = codec.decode(encoded);
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("The codec needs more bytes than an element has");
+        }
+        if (value == null)
+            throw new StreamCorruptedException("The codec has decoded a null value");
+        if (encoded.hasRemaining())
+            throw new StreamCorruptedException("The codec has left " + encoded.remaining() + " bytes of an element " +
+                    "unread");
+        return value;
+    }
+
+    /**
+     * Makes sure the whole payload has been read and consumes the terminating empty chunk.
+     */
+    void finish() throws IOException {
+        if (buffer.hasRemaining()  ||  chunkBytesLeft > 0  ||  readChunkLength() != 0)
+            throw new StreamCorruptedException("The snapshot continues past its last element");
+    }
+
+    private void ensureAvailable(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes)
+            return;
+
+        buffer.compact();
+        fill(buffer, bytes);
+        buffer.flip();
+    }
+
+    /**
+     * Reads from the channel until the target holds the given number of bytes, crossing chunk boundaries if needed.
+     */
+    private void fill(ByteBuffer target, int bytes) throws IOException {
+        while (target.position() < bytes) {
+            if (chunkBytesLeft == 0) {
+                chunkBytesLeft = readChunkLength();
+                if (chunkBytesLeft == 0)
+                    throw new EOFException("The snapshot ends unexpectedly");
+            }
+            int limit = target.limit();
+            target.limit(Math.min(limit, target.position() + chunkBytesLeft));
+            int bytesRead = channel.read(target);
+            target.limit(limit);
+            if (bytesRead < 0)
+                throw new EOFException("The snapshot ends unexpectedly");
+            chunkBytesLeft -= bytesRead;
+        }
+    }
+
+    private int readChunkLength() throws IOException {
+        chunkLengthBuffer.clear();
+        while (chunkLengthBuffer.hasRemaining())
+            if (channel.read(chunkLengthBuffer) < 0)
+                throw new EOFException("The snapshot ends unexpectedly");
+        int chunkLength = chunkLengthBuffer.getInt(0);
+        if (chunkLength < 0)
+            throw new StreamCorruptedException("Negative chunk length: " + chunkLength);
+        return chunkLength;
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes the binary snapshot format shared by all collections.
+ * The payload is split into chunks, each preceded by its length as an int, and is terminated by an empty chunk.
+ * That lets a reader stop exactly at the end of the snapshot without knowing its size in advance, so several
+ * snapshots can follow each other in one channel. The payload starts with a magic number and a byte identifying
+ * the kind of collection. Counts and element lengths are written as unsigned variable-length integers
+ * (7 bits per byte), elements are written by the codec.
+ */
+class SnapshotWriter<T> {
+
+    static final int MAGIC = 0x41445331;    // "ADS1"
+    static final byte LINKED_LIST = 1;
+    static final byte SORTED_LIST = 2;
+    static final byte PRIORITY_QUEUE = 3;
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private final WritableByteChannel channel;
+    private final ElementCodec<T> codec;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    { buffer.position(Integer.BYTES); }    // room for the length of the chunk
+
+    SnapshotWriter(WritableByteChannel channel, ElementCodec<T> codec) {
+        this.channel = channel;
+        this.codec = codec;
+    }
+
+    void writeHeader(byte kind) throws IOException {
+        ensureRoom(Integer.BYTES + 1);
+        buffer.putInt(MAGIC);
+        buffer.put(kind);
+    }
+
+    void writeCount(int count) throws IOException {
+        if (count < 0)
+            throw new IllegalArgumentException("Invalid count: " + count);
+
+        ensureRoom(MAX_VARINT_SIZE);
+        while ((count & ~0x7F) != 0) {
+            buffer.put((byte) ((count & 0x7F) | 0x80));
+            count >>>= 7;
+        }
+        buffer.put((byte) count);
+    }
+
+    void writeElement(T value) throws IOException {
+        int encodedSize = codec.encodedSize(value);
+        writeCount(encodedSize);
+        if (encodedSize > buffer.capacity() - Integer.BYTES) {
+            flush();
+            ByteBuffer largeChunk = ByteBuffer.allocate(Integer.BYTES + encodedSize);
+            largeChunk.putInt(encodedSize);
+            encode(value, largeChunk, encodedSize);
+            largeChunk.flip();
+            writeFully(largeChunk);
+            return;
+        }
+        ensureRoom(encodedSize);
+        encode(value, buffer, encodedSize);
+    }
+
+    /**
+     * Writes out the buffered payload followed by the terminating empty chunk.
+     */
+    void finish() throws IOException {
+        flush();
+        buffer.putInt(0, 0);
+        buffer.flip();
+        writeFully(buffer);
+    }
+
+    private void flush() throws IOException {
+        int chunkLength = buffer.position() - Integer.BYTES;
+        if (chunkLength == 0)
+            return;
+
+        buffer.putInt(0, chunkLength);
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+        buffer.position(Integer.BYTES);
+    }
+
+    private void encode(T value, ByteBuffer target, int encodedSize) {
+        int start = target.position();
+        codec.encode(value, target);
+        if (target.position() - start != encodedSize)
+            throw new IllegalStateException("The codec has written " + (target.position() - start) + " bytes " +
+                    "instead of the declared " + encodedSize);
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining())
+            channel.write(source);
+    }
+}
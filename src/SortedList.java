@@ -1,22 +1,71 @@
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
 
 /**
  * This collection keeps its elements sorted.
  * The order is natural by default but can be changed via comparators.
  * SortedList can be based on a LinkedList. Depending on the size of the LinkedList, either selection sort or
  * heapsort will be employed.
+ * In the multiset mode every distinct value is stored once along with the number of its occurrences, so memory
+ * and insertion cost depend on the number of distinct values only. Values that the comparator considers equal
+ * are treated as copies of the first one added. Iteration still yields every copy.
  */
 public class SortedList<T extends Comparable<T>> extends LinkedList<T> {
 
     public final Comparator<T> comparator;
+    public final boolean multiset;
     public static final int HEAPSORT_WORTHY_SIZE = 10;
 
+    private static class CountedNode<E> extends Node<E> {
+
+        int count = 1;
+
+        CountedNode(E value)
+        { super(value); }
+    }
+
+    /**
+     * Yields each value of a multiset as many times as it occurs.
+     */
+    private class MultisetIterator extends ListIterator {
+
+        int copiesLeft;
+
+        @Override
+        public boolean hasNext()
+        { return copiesLeft > 0  ||  super.hasNext(); }
+
+        @Override
+        protected T advance() {
+            if (copiesLeft == 0) {
+                currentNode = currentNode.next;
+                copiesLeft = occurrences(currentNode);
+            }
+            copiesLeft--;
+            return currentNode.value;
+        }
+
+        @Override
+        protected void removeCurrent()
+        { removeOccurrence(currentNode); }
+    }
+
     SortedList()
-    { this.comparator = Comparator.naturalOrder(); }
+    { this(Comparator.naturalOrder()); }
 
     SortedList(Comparator<T> comparator)
-    { this.comparator = comparator; }
+    { this(comparator, false); }
+
+    SortedList(Comparator<T> comparator, boolean multiset) {
+        this.comparator = comparator;
+        this.multiset = multiset;
+    }
 
     SortedList(LinkedList<T> list) {
         this();
@@ -28,8 +77,16 @@ public class SortedList<T extends Comparable<T>> extends LinkedList<T> {
         sortAndAdd(list);
     }
 
+    @Override
+    public Iterator<T> iterator()
+    { return multiset ? new MultisetIterator() : super.iterator(); }
+
     @Override
     public void add(T newValue) {
+        if (multiset) {
+            addOccurrence(newValue);
+            return;
+        }
         int insertionIndex = 0;
         for (T value : this) {
             if (comparator.compare(newValue, value) <= 0) break;
@@ -42,6 +99,215 @@ public class SortedList<T extends Comparable<T>> extends LinkedList<T> {
     public void insert(int insertionIndex, T newValue)
     { throw new UnsupportedOperationException("Random insertion on a sorted list is prohibited. Use add()"); }
 
+    @Override
+    public void append(LinkedList<T> that)
+    { throw new UnsupportedOperationException("Appending to a sorted list is prohibited. Use add()"); }
+
+    @Override
+    protected boolean nodesAreTransferable()
+    { return !multiset; }
+
+    @Override
+    public T remove(int index) {
+        if (!multiset)
+            return super.remove(index);
+        if (index < 0  ||  index >= size)
+            throw new IllegalArgumentException("Invalid index: " + index);
+
+        Node<T> removed = getNodeByElementIndex(index);
+        removeOccurrence(removed);
+        return removed.value;
+    }
+
+    @Override
+    public T peek(int index) {
+        if (!multiset)
+            return super.peek(index);
+        if (index < 0  ||  index >= size)
+            throw new IllegalArgumentException("Invalid index: " + index);
+
+        return getNodeByElementIndex(index).value;
+    }
+
+    /**
+     * @return how many elements of this list the comparator considers equal to the given value
+     */
+    public int count(T value) {
+        Objects.requireNonNull(value, "Null values are prohibited");
+        int count = 0;
+        for (Node<T> currentNode = head.next; currentNode != tail; currentNode = currentNode.next) {
+            int comparison = comparator.compare(value, currentNode.value);
+            if (comparison < 0) break;
+            if (comparison == 0) count += occurrences(currentNode);
+        }
+        return count;
+    }
+
+    /**
+     * Removes a single element that the comparator considers equal to the given value.
+     * @return false if there is no such element
+     */
+    public boolean removeOne(T value) {
+        Objects.requireNonNull(value, "Null values are prohibited");
+        for (Node<T> currentNode = head.next; currentNode != tail; currentNode = currentNode.next) {
+            int comparison = comparator.compare(value, currentNode.value);
+            if (comparison < 0) break;
+            if (comparison == 0) {
+                removeOccurrence(currentNode);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a binary snapshot of this list to the channel. Each node is stored once along with the number of
+     * its occurrences, so multisets take space proportional to the number of distinct values. The channel is not
+     * closed.
+     */
+    @Override
+    public void writeTo(WritableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        int nodesCount = 0;
+        for (Node<T> currentNode = head.next; currentNode != tail; currentNode = currentNode.next)
+            nodesCount++;
+
+        SnapshotWriter<T> writer = new SnapshotWriter<>(channel, codec);
+        writer.writeHeader(SnapshotWriter.SORTED_LIST);
+        writer.writeCount(nodesCount);
+        for (Node<T> currentNode = head.next; currentNode != tail; currentNode = currentNode.next) {
+            writer.writeCount(occurrences(currentNode));
+            writer.writeElement(currentNode.value);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Adds the elements of a snapshot made by SortedList.writeTo() to this list. The elements are stored in order,
+     * so the nodes are linked at the end of a separate list one after another instead of being added, and then
+     * merged into this list in a single pass. The whole restoration takes linear time. Restored elements follow
+     * the equal elements already present. Nothing is added if the snapshot is broken or is not sorted according
+     * to this list's comparator. Either mode can read snapshots of the other. The channel is left right after
+     * the snapshot.
+     */
+    @Override
+    public void readFrom(ReadableByteChannel channel, ElementCodec<T> codec) throws IOException {
+        SnapshotReader<T> reader = new SnapshotReader<>(channel, codec);
+        reader.readHeader(SnapshotWriter.SORTED_LIST);
+        SortedList<T> restored = new SortedList<>(comparator, multiset);
+        for (int nodesLeft = reader.readCount(); nodesLeft > 0; --nodesLeft) {
+            int occurrences = reader.readCount();
+            restored.linkRun(reader.readElement(), occurrences);
+        }
+        reader.finish();
+        if (restored.size > Integer.MAX_VALUE - size)
+            throw new IllegalStateException("The restored elements do not fit into this list");
+        if (restored.size != 0)
+            mergeNodesFrom(restored);
+    }
+
+    /**
+     * Moves all nodes of another sorted list with the same comparator and mode into this one, keeping the order.
+     * In the multiset mode a node equal to an existing one only adds its count to it.
+     */
+    private void mergeNodesFrom(SortedList<T> that) {
+        Node<T> insertionPoint = head.next;
+        Node<T> nextNode;
+        for (Node<T> node = that.head.next; node != that.tail; node = nextNode) {
+            nextNode = node.next;
+            while (insertionPoint != tail  &&  comparator.compare(insertionPoint.value, node.value) <= 0)
+                insertionPoint = insertionPoint.next;
+
+            Node<T> left = insertionPoint.previous;
+            if (multiset  &&  left != head  &&  comparator.compare(left.value, node.value) == 0) {
+                ((CountedNode<T>) left).count += ((CountedNode<T>) node).count;
+            } else {
+                left.next = node;
+                node.previous = left;
+                node.next = insertionPoint;
+                insertionPoint.previous = node;
+            }
+        }
+
+        size += that.size;
+        modCount++;
+        that.head.next = that.tail;
+        that.tail.previous = that.head;
+        that.size = 0;
+        that.modCount++;
+    }
+
+    /**
+     * Links the given number of copies of a value that is not smaller than any other at the end of this list.
+     */
+    private void linkRun(T value, int occurrences) throws StreamCorruptedException {
+        if (occurrences == 0)
+            throw new StreamCorruptedException("A value without occurrences has been found");
+        if (occurrences > Integer.MAX_VALUE - size)
+            throw new StreamCorruptedException("The snapshot holds more than " + Integer.MAX_VALUE + " elements");
+
+        Node<T> last = tail.previous;
+        int comparison = (last == head) ? 1 : comparator.compare(value, last.value);
+        if (comparison < 0)
+            throw new StreamCorruptedException("The snapshot is not sorted according to this list's comparator");
+        if (multiset  &&  comparison == 0) {
+            ((CountedNode<T>) last).count += occurrences;
+            size += occurrences;
+            modCount++;
+        } else if (multiset) {
+            CountedNode<T> newNode = new CountedNode<>(value);
+            linkBefore(newNode, tail);
+            newNode.count = occurrences;
+            size += occurrences -1;
+        } else {
+            for (int copy = 0; copy < occurrences; ++copy)
+                linkBefore(new Node<>(value), tail);
+        }
+    }
+
+    private void addOccurrence(T newValue) {
+        Objects.requireNonNull(newValue, "Null values are prohibited");
+        Node<T> currentNode = head.next;
+        while (currentNode != tail) {
+            int comparison = comparator.compare(newValue, currentNode.value);
+            if (comparison == 0) {
+                ((CountedNode<T>) currentNode).count++;
+                size++;
+                modCount++;
+                return;
+            }
+            if (comparison < 0) break;
+            currentNode = currentNode.next;
+        }
+        linkBefore(new CountedNode<>(newValue), currentNode);
+    }
+
+    /**
+     * The size field counts elements rather than nodes, so it must only change by one here.
+     */
+    private void removeOccurrence(Node<T> node) {
+        if (occurrences(node) == 1) {
+            unlink(node);
+            return;
+        }
+        ((CountedNode<T>) node).count--;
+        size--;
+        modCount++;
+    }
+
+    private int occurrences(Node<T> node)
+    { return multiset ? ((CountedNode<T>) node).count : 1; }
+
+    /**
+     * In the multiset mode a node may hold several elements, so the index is counted in elements, not nodes.
+     */
+    private Node<T> getNodeByElementIndex(int index) {
+        Node<T> currentNode = head.next;
+        for (int elementsSkipped = occurrences(currentNode); elementsSkipped <= index;
+                elementsSkipped += occurrences(currentNode))
+            currentNode = currentNode.next;
+        return currentNode;
+    }
+
     private void sortAndAdd(LinkedList<T> list) {
         ArrayList<T> unsortedArray = new ArrayList<>(list.size);
         for (T value : list)
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+class BlockingPriorityQueueTest {
+
+    private static Random random = new Random(System.currentTimeMillis());
+
+    @Test
+    @DisplayName("drainTo() extracts the smallest items in order")
+    void drainTo() throws InterruptedException {
+        BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        ArrayList<Integer> expected = new ArrayList<>(25);
+        int elementsAmount = random.nextInt(11) +15;    // 15..25
+
+        for (int i = elementsAmount; i > 0; --i) {
+            int someValue = random.nextInt();
+            queue.offer(someValue);
+            expected.add(someValue);
+        }
+        expected.sort(Comparator.naturalOrder());
+        ArrayList<Integer> actual = new ArrayList<>(25);
+        int firstBatch = queue.drainTo(actual, 10);
+        int secondBatch = queue.drainTo(actual, 100);
+
+        Assertions.assertEquals(10, firstBatch);
+        Assertions.assertEquals(elementsAmount -10, secondBatch);
+        Assertions.assertTrue(queue.isEmpty());
+        Assertions.assertIterableEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("poll() with a timeout returns null on an empty queue")
+    void pollTimesOut() throws InterruptedException {
+        BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+
+        Assertions.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("offer() with a timeout fails on a full queue")
+    void offerTimesOut() throws InterruptedException {
+        BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<>(Comparator.comparingInt(Integer::intValue), 2);
+        queue.offer(1);
+        queue.offer(2);
+
+        Assertions.assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(0, queue.remainingCapacity());
+    }
+
+    @Test
+    @DisplayName("a bounded queue hands all items from a producer to a consumer")
+    void producerConsumer() throws InterruptedException {
+        BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<>(Comparator.comparingInt(Integer::intValue), 4);
+        int elementsAmount = random.nextInt(101) +100;    // 100..200
+        ArrayList<Integer> expected = new ArrayList<>(elementsAmount);
+        ArrayList<Integer> actual = new ArrayList<>(elementsAmount);
+        for (int i = 0; i < elementsAmount; ++i)
+            expected.add(i);
+
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < elementsAmount; ++i)
+                    queue.offer(i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        while (actual.size() < elementsAmount) {
+            actual.add(queue.take());
+            queue.drainTo(actual, 3);
+        }
+        producer.join();
+
+        actual.sort(Comparator.naturalOrder());
+        Assertions.assertIterableEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("drainTo() keeps the queue consistent if the target collection throws")
+    void drainToThrowingTarget() throws InterruptedException {
+        BlockingPriorityQueue<Integer> queue = new BlockingPriorityQueue<>(Comparator.comparingInt(Integer::intValue), 2);
+        queue.offer(2);
+        queue.offer(1);
+        ArrayList<Integer> target = new ArrayList<Integer>() {
+            @Override
+            public boolean add(Integer item) {
+                if (!isEmpty())
+                    throw new IllegalStateException("This collection holds one item at most");
+                return super.add(item);
+            }
+        };
+
+        Assertions.assertThrows(IllegalStateException.class, () -> queue.drainTo(target, 2));
+        Assertions.assertEquals(1, queue.size());
+        Assertions.assertEquals(Integer.valueOf(1), target.get(0));
+        Assertions.assertEquals(Integer.valueOf(2), queue.take());
+        Assertions.assertTrue(queue.isEmpty());
+    }
+}
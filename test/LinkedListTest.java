@@ -3,6 +3,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 
 class LinkedListTest {
@@ -111,6 +119,196 @@ class LinkedListTest {
         Assertions.assertThrows(ConcurrentModificationException.class, wrongMove);
     }
 
+    @Test
+    @DisplayName("append() moves all elements and keeps the hash consistent")
+    void append() {
+        LinkedList<Integer> actual = new LinkedList<>();
+        LinkedList<Integer> appended = new LinkedList<>();
+        LinkedList<Integer> expected = new LinkedList<>();
+        random.ints(random.nextInt(11) +15)
+                .peek(expected::add)
+                .forEach(actual::add);
+        random.ints(random.nextInt(11) +15)
+                .peek(expected::add)
+                .forEach(appended::add);
+        actual.hashCode();
+        appended.hashCode();
+
+        actual.append(appended);
+
+        Assertions.assertIterableEquals(expected, actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(expected.hashCode(), actual.hashCode());
+        Assertions.assertEquals(0, appended.size());
+        Assertions.assertFalse(appended.iterator().hasNext());
+        Assertions.assertEquals(new LinkedList<Integer>().hashCode(), appended.hashCode());
+    }
+
+    @Test
+    @DisplayName("splitAt() and removeRange() extract elements without copying")
+    void splitAndRemoveRange() {
+        LinkedList<Integer> actual = new LinkedList<>();
+        ArrayList<Integer> expected = new ArrayList<>();
+        random.ints(random.nextInt(11) +15)
+                .peek(expected::add)
+                .forEach(actual::add);
+        actual.hashCode();
+
+        int fromIndex = random.nextInt(expected.size() /2);
+        int toIndex = fromIndex + random.nextInt(expected.size() /2);
+        LinkedList<Integer> extracted = actual.removeRange(fromIndex, toIndex);
+        List<Integer> expectedRange = expected.subList(fromIndex, toIndex);
+        Assertions.assertIterableEquals(expectedRange, extracted);
+        Assertions.assertEquals(expectedRange.size(), extracted.size());
+        Assertions.assertEquals(expectedRange.hashCode(), extracted.hashCode());
+        expectedRange.clear();
+
+        int splitIndex = random.nextInt(expected.size() +1);
+        LinkedList<Integer> rightPart = actual.splitAt(splitIndex);
+        List<Integer> expectedRightPart = expected.subList(splitIndex, expected.size());
+        Assertions.assertIterableEquals(expectedRightPart, rightPart);
+        Assertions.assertEquals(expectedRightPart.size(), rightPart.size());
+        expectedRightPart.clear();
+
+        Assertions.assertIterableEquals(expected, actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+        Assertions.assertEquals(expected.hashCode(), actual.hashCode());
+    }
+
+    @Test
+    @DisplayName("splitAt() near the head does not walk the rest of a large list")
+    void splitNearHead() {
+        LinkedList<Integer> largeList = new LinkedList<>();
+        for (int i = 0; i < 5_000_000; ++i)
+            largeList.add(i);
+        LinkedList<Integer> smallList = new LinkedList<>();
+        for (int i = 0; i < 5; ++i)
+            smallList.add(i);
+
+        for (int i = 0; i < 100; ++i) {    // warm-up
+            largeList.append(largeList.splitAt(1));
+            smallList.append(smallList.splitAt(1));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; ++i)
+            largeList.append(largeList.splitAt(1));
+        long largeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < 100; ++i)
+            smallList.append(smallList.splitAt(1));
+        long smallNanos = System.nanoTime() - start;
+
+        Assertions.assertEquals(5_000_000, largeList.size());
+        Assertions.assertEquals(Integer.valueOf(4_999_999), largeList.peek(4_999_999));
+        Assertions.assertTrue(largeNanos < 100*smallNanos + 10_000_000,
+                "Splitting a large list took " + largeNanos/1000 + " us, a small one " + smallNanos/1000 + " us");
+    }
+
+    @Test
+    @DisplayName("several snapshots written to one channel are read back one by one")
+    void consecutiveSnapshots() throws IOException {
+        LinkedList<Integer> original1 = new LinkedList<>();
+        LinkedList<Integer> original2 = new LinkedList<>();
+        random.ints(random.nextInt(11) +15)
+                .forEach(original1::add);
+        random.ints(random.nextInt(11) +15)
+                .forEach(original2::add);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel output = Channels.newChannel(bytes);
+        original1.writeTo(output, ElementCodec.INTEGER);
+        original2.writeTo(output, ElementCodec.INTEGER);
+
+        ReadableByteChannel input = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        LinkedList<Integer> restored1 = new LinkedList<>();
+        restored1.readFrom(input, ElementCodec.INTEGER);
+        LinkedList<Integer> restored2 = new LinkedList<>();
+        restored2.readFrom(input, ElementCodec.INTEGER);
+
+        Assertions.assertEquals(original1, restored1);
+        Assertions.assertEquals(original2, restored2);
+        Assertions.assertEquals(-1, input.read(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    @DisplayName("readFrom() throws on a count that does not fit into an int")
+    void oversizedCount() {
+        ByteBuffer snapshot = ByteBuffer.allocate(64);
+        snapshot.putInt(10)    // the length of the chunk
+                .putInt(SnapshotWriter.MAGIC)
+                .put(SnapshotWriter.LINKED_LIST)
+                .put(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x10})
+                .putInt(0);    // the terminating empty chunk
+        byte[] bytes = Arrays.copyOf(snapshot.array(), snapshot.position());
+        LinkedList<Integer> restored = new LinkedList<>();
+
+        Executable wrongMove = () -> restored.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), ElementCodec.INTEGER);
+
+        Assertions.assertThrows(StreamCorruptedException.class, wrongMove);
+        Assertions.assertEquals(0, restored.size());
+    }
+
+    @Test
+    @DisplayName("a broken snapshot adds nothing to the list")
+    void brokenSnapshot() throws IOException {
+        LinkedList<Integer> original = new LinkedList<>();
+        random.ints(random.nextInt(11) +15)
+                .forEach(original::add);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeTo(Channels.newChannel(bytes), ElementCodec.INTEGER);
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() -10);
+        LinkedList<Integer> restored = new LinkedList<>();
+        restored.add(42);
+
+        Executable truncatedRead = () -> restored.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(truncated)), ElementCodec.INTEGER);
+        LinkedList<Long> longs = new LinkedList<>();
+        longs.add(42L);
+        ByteArrayOutputStream longBytes = new ByteArrayOutputStream();
+        longs.writeTo(Channels.newChannel(longBytes), ElementCodec.LONG);
+        Executable shortCodecRead = () -> restored.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(longBytes.toByteArray())), ElementCodec.INTEGER);
+        Executable longCodecRead = () -> longs.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ElementCodec.LONG);
+
+        Assertions.assertThrows(IOException.class, truncatedRead);
+        Assertions.assertThrows(StreamCorruptedException.class, shortCodecRead);
+        Assertions.assertThrows(StreamCorruptedException.class, longCodecRead);
+        Assertions.assertEquals(1, restored.size());
+        Assertions.assertEquals(Integer.valueOf(42), restored.peek(0));
+        Assertions.assertEquals(1, longs.size());
+    }
+
+    @Test
+    @DisplayName("append() throws if the list is appended to itself")
+    void appendThrowsOnSelf() {
+        LinkedList<String> list = new LinkedList<>();
+        list.add("something");
+
+        Executable wrongMove = () -> list.append(list);
+
+        Assertions.assertThrows(IllegalArgumentException.class, wrongMove);
+    }
+
+    @Test
+    @DisplayName("snapshot written by writeTo() is restored by readFrom()")
+    void snapshot() throws IOException {
+        LinkedList<String> original = new LinkedList<>();
+        random.ints(random.nextInt(11) +15)
+                .mapToObj(Integer::toString)
+                .forEach(original::add);
+        original.add("");
+        original.add("non-ASCII: \u00e9\u4e2d");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeTo(Channels.newChannel(bytes), ElementCodec.STRING);
+
+        LinkedList<String> restored = new LinkedList<>();
+        restored.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ElementCodec.STRING);
+
+        Assertions.assertEquals(original, restored);
+        Assertions.assertEquals(original.hashCode(), restored.hashCode());
+    }
+
     private static int getRandomInsertionIndex(int boundInclusive) {
         if (boundInclusive == 0) return 0;
         return random.nextInt(boundInclusive +1);
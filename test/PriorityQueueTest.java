@@ -2,6 +2,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Random;
@@ -68,4 +75,65 @@ public class PriorityQueueTest {
 
         Assertions.assertIterableEquals(actual, expected);
     }
+
+    @Test
+    @DisplayName("snapshot is restored and melded into a nonempty queue")
+    void snapshot() throws IOException {
+        PriorityQueue<Long> original = new PriorityQueue<>(Comparator.comparingLong(Long::longValue));
+        PriorityQueue<Long> restored = new PriorityQueue<>(Comparator.comparingLong(Long::longValue));
+        ArrayList<Long> expected = new ArrayList<>(50);
+        ArrayList<Long> actual = new ArrayList<>(50);
+
+        random.longs(random.nextInt(11) +15)
+                .peek(expected::add)
+                .forEach(original::offer);
+        random.longs(random.nextInt(11) +15)
+                .peek(expected::add)
+                .forEach(restored::offer);
+        expected.sort(Comparator.comparingLong(Long::longValue));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeTo(Channels.newChannel(bytes), ElementCodec.LONG);
+        restored.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ElementCodec.LONG);
+        while (!restored.isEmpty())
+            actual.add(restored.poll());
+
+        Assertions.assertIterableEquals(actual, expected);
+    }
+
+    @Test
+    @DisplayName("several snapshots written to one channel are read back one by one")
+    void consecutiveSnapshots() throws IOException {
+        PriorityQueue<Integer> original1 = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        PriorityQueue<Integer> original2 = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        ArrayList<Integer> expected1 = new ArrayList<>(25);
+        ArrayList<Integer> expected2 = new ArrayList<>(25);
+        random.ints(random.nextInt(11) +15)
+                .peek(expected1::add)
+                .forEach(original1::offer);
+        random.ints(random.nextInt(11) +15)
+                .peek(expected2::add)
+                .forEach(original2::offer);
+        expected1.sort(Comparator.comparingInt(Integer::intValue));
+        expected2.sort(Comparator.comparingInt(Integer::intValue));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel output = Channels.newChannel(bytes);
+        original1.writeTo(output, ElementCodec.INTEGER);
+        original2.writeTo(output, ElementCodec.INTEGER);
+
+        ReadableByteChannel input = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        PriorityQueue<Integer> restored1 = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        restored1.readFrom(input, ElementCodec.INTEGER);
+        PriorityQueue<Integer> restored2 = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        restored2.readFrom(input, ElementCodec.INTEGER);
+        ArrayList<Integer> actual1 = new ArrayList<>(25);
+        ArrayList<Integer> actual2 = new ArrayList<>(25);
+        while (!restored1.isEmpty())
+            actual1.add(restored1.poll());
+        while (!restored2.isEmpty())
+            actual2.add(restored2.poll());
+
+        Assertions.assertIterableEquals(expected1, actual1);
+        Assertions.assertIterableEquals(expected2, actual2);
+        Assertions.assertEquals(-1, input.read(ByteBuffer.allocate(1)));
+    }
 }
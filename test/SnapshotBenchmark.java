@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Measures the throughput of writeTo() and readFrom() against rebuilding the collections element by element.
+ * This is not a JUnit test, run it via main(). The numbers are rough: every measurement is repeated a few times
+ * to let the JIT warm up and the best run is reported.
+ */
+public class SnapshotBenchmark {
+
+    private static final int LINKED_LIST_SIZE = 1_000_000;
+    private static final int SORTED_LIST_SIZE = 20_000;
+    private static final int PRIORITY_QUEUE_SIZE = 200_000;
+    private static final int RUNS = 5;
+
+    private static Random random = new Random(System.currentTimeMillis());
+
+    private interface Measured {
+        void run() throws IOException;
+    }
+
+    private interface Snapshotter {
+        void writeTo(WritableByteChannel channel, ElementCodec<Integer> codec) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("snapshot", ".bin");
+        try {
+            benchmarkLinkedList(file);
+            benchmarkSortedList(file);
+            benchmarkPriorityQueue(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void benchmarkLinkedList(Path file) throws IOException {
+        LinkedList<Integer> original = new LinkedList<>();
+        random.ints(LINKED_LIST_SIZE).forEach(original::add);
+
+        report("LinkedList writeTo", LINKED_LIST_SIZE, () -> write(original::writeTo, file));
+        report("LinkedList readFrom", LINKED_LIST_SIZE, () -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                new LinkedList<Integer>().readFrom(channel, ElementCodec.INTEGER);
+            }
+        });
+        report("LinkedList addAll", LINKED_LIST_SIZE, () -> new LinkedList<Integer>().addAll(original));
+    }
+
+    private static void benchmarkSortedList(Path file) throws IOException {
+        SortedList<Integer> original = new SortedList<>();
+        random.ints(SORTED_LIST_SIZE).forEach(original::add);
+
+        report("SortedList writeTo", SORTED_LIST_SIZE, () -> write(original::writeTo, file));
+        report("SortedList readFrom", SORTED_LIST_SIZE, () -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                new SortedList<Integer>().readFrom(channel, ElementCodec.INTEGER);
+            }
+        });
+        report("SortedList add", SORTED_LIST_SIZE, () -> {
+            SortedList<Integer> rebuilt = new SortedList<>();
+            for (Integer value : original)
+                rebuilt.add(value);
+        });
+    }
+
+    private static void benchmarkPriorityQueue(Path file) throws IOException {
+        int[] values = random.ints(PRIORITY_QUEUE_SIZE).toArray();
+        PriorityQueue<Integer> original = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+        for (int value : values)
+            original.offer(value);
+
+        report("PriorityQueue writeTo", PRIORITY_QUEUE_SIZE, () -> write(original::writeTo, file));
+        report("PriorityQueue readFrom", PRIORITY_QUEUE_SIZE, () -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                new PriorityQueue<Integer>(Comparator.comparingInt(Integer::intValue))
+                        .readFrom(channel, ElementCodec.INTEGER);
+            }
+        });
+        report("PriorityQueue offer", PRIORITY_QUEUE_SIZE, () -> {
+            PriorityQueue<Integer> rebuilt = new PriorityQueue<>(Comparator.comparingInt(Integer::intValue));
+            for (int value : values)
+                rebuilt.offer(value);
+        });
+    }
+
+    private static void write(Snapshotter snapshotter, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            snapshotter.writeTo(channel, ElementCodec.INTEGER);
+        }
+    }
+
+    private static void report(String name, int elementsAmount, Measured measured) throws IOException {
+        long bestNanos = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; ++run) {
+            long start = System.nanoTime();
+            measured.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        double elementsPerSecond = elementsAmount / (bestNanos / 1e9);
+        System.out.printf("%-24s %10.3f ms %14.0f elements/s%n", name, bestNanos / 1e6, elementsPerSecond);
+    }
+}
@@ -1,9 +1,20 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Random;
 
 class SortedListTest {
@@ -79,4 +90,178 @@ class SortedListTest {
 
         Assertions.assertIterableEquals(expected, actual);
     }
+
+    @Test
+    @DisplayName("multiset mode expands duplicates on iteration")
+    void multiset() {
+        SortedList<Integer> actual = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        ArrayList<Integer> expected = new ArrayList<>();
+        int elementsAmount = random.nextInt(11) +15;    // 15..25
+
+        for (int i = elementsAmount; i > 0; --i) {
+            int someValue = random.nextInt(5);
+            actual.add(someValue);
+            expected.add(someValue);
+        }
+        expected.sort(Comparator.naturalOrder());
+
+        Assertions.assertIterableEquals(expected, actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int value = 0; value < 5; ++value)
+            Assertions.assertEquals(Collections.frequency(expected, value), actual.count(value));
+        for (int index = 0; index < expected.size(); ++index)
+            Assertions.assertEquals(expected.get(index), actual.peek(index));
+    }
+
+    @Test
+    @DisplayName("multiset mode removals")
+    void multisetRemovals() {
+        SortedList<Integer> actual = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        ArrayList<Integer> expected = new ArrayList<>();
+        int elementsAmount = random.nextInt(11) +15;    // 15..25
+
+        for (int i = elementsAmount; i > 0; --i) {
+            int someValue = random.nextInt(5);
+            actual.add(someValue);
+            expected.add(someValue);
+        }
+        expected.sort(Comparator.naturalOrder());
+
+        Assertions.assertEquals(expected.remove(Integer.valueOf(2)), actual.removeOne(2));
+        Assertions.assertFalse(actual.removeOne(5));
+        int validIndex = random.nextInt(expected.size());
+        Assertions.assertEquals(expected.remove(validIndex), actual.remove(validIndex));
+
+        Iterator<Integer> testIter = actual.iterator();
+        Iterator<Integer> stdIter = expected.iterator();
+        while (testIter.hasNext()  &&  stdIter.hasNext()) {
+            testIter.next();
+            stdIter.next();
+            if (random.nextBoolean()) {
+                testIter.remove();
+                stdIter.remove();
+            }
+        }
+        Assertions.assertIterableEquals(expected, actual);
+        Assertions.assertEquals(expected.size(), actual.size());
+    }
+
+    @Test
+    @DisplayName("nodes cannot be transferred where they would break the list")
+    void transferRestrictions() {
+        SortedList<Integer> sortedList = new SortedList<>();
+        SortedList<Integer> multiset = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        LinkedList<Integer> linkedList = new LinkedList<>();
+        random.ints(random.nextInt(11) +15)
+                .peek(sortedList::add)
+                .peek(multiset::add)
+                .forEach(linkedList::add);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> sortedList.append(linkedList));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> multiset.removeRange(0, 1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> multiset.splitAt(1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> linkedList.append(multiset));
+        Assertions.assertEquals(sortedList.size(), linkedList.size());
+        Assertions.assertEquals(sortedList.size(), multiset.size());
+    }
+
+    @Test
+    @DisplayName("snapshot is restored in either mode")
+    void snapshot() throws IOException {
+        SortedList<Integer> original = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        ArrayList<Integer> expected = new ArrayList<>();
+        int elementsAmount = random.nextInt(11) +15;    // 15..25
+
+        for (int i = elementsAmount; i > 0; --i) {
+            int someValue = random.nextInt(5);
+            original.add(someValue);
+            expected.add(someValue);
+        }
+        expected.sort(Comparator.naturalOrder());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeTo(Channels.newChannel(bytes), ElementCodec.INTEGER);
+
+        SortedList<Integer> restoredMultiset = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        restoredMultiset.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+                ElementCodec.INTEGER);
+        SortedList<Integer> restoredList = new SortedList<>(Comparator.comparingInt(Integer::intValue), false);
+        restoredList.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+                ElementCodec.INTEGER);
+
+        Assertions.assertIterableEquals(expected, restoredMultiset);
+        Assertions.assertEquals(expected.size(), restoredMultiset.size());
+        Assertions.assertEquals(original.count(3), restoredMultiset.count(3));
+        Assertions.assertIterableEquals(expected, restoredList);
+        Assertions.assertEquals(expected.size(), restoredList.size());
+    }
+
+    @Test
+    @DisplayName("readFrom() throws and adds nothing if the snapshot is not sorted according to the comparator")
+    void snapshotWithOtherComparator() throws IOException {
+        SortedList<Integer> original = new SortedList<>();
+        random.ints(random.nextInt(11) +15)
+                .forEach(original::add);
+        original.add(Integer.MIN_VALUE);
+        original.add(Integer.MAX_VALUE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeTo(Channels.newChannel(bytes), ElementCodec.INTEGER);
+
+        SortedList<Integer> restored = new SortedList<>(Comparator.<Integer>naturalOrder().reversed());
+        Executable wrongMove = () -> restored.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ElementCodec.INTEGER);
+
+        Assertions.assertThrows(StreamCorruptedException.class, wrongMove);
+        Assertions.assertEquals(0, restored.size());
+        Assertions.assertFalse(restored.iterator().hasNext());
+    }
+
+    @Test
+    @DisplayName("a snapshot is merged into a nonempty list in either mode")
+    void snapshotIntoNonemptyList() throws IOException {
+        for (boolean multiset : new boolean[] {false, true}) {
+            SortedList<Integer> original = new SortedList<>(Comparator.comparingInt(Integer::intValue), multiset);
+            SortedList<Integer> actual = new SortedList<>(Comparator.comparingInt(Integer::intValue), multiset);
+            ArrayList<Integer> expected = new ArrayList<>();
+            random.ints(random.nextInt(11) +15, 0, 10)
+                    .peek(expected::add)
+                    .forEach(original::add);
+            random.ints(random.nextInt(11) +15, 0, 10)
+                    .peek(expected::add)
+                    .forEach(actual::add);
+            expected.sort(Comparator.naturalOrder());
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            original.writeTo(Channels.newChannel(bytes), ElementCodec.INTEGER);
+
+            actual.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), ElementCodec.INTEGER);
+
+            Assertions.assertIterableEquals(expected, actual);
+            Assertions.assertEquals(expected.size(), actual.size());
+            Assertions.assertEquals(Collections.frequency(expected, 5), actual.count(5));
+        }
+    }
+
+    @Test
+    @DisplayName("several snapshots written to one channel are read back one by one")
+    void consecutiveSnapshots() throws IOException {
+        SortedList<Integer> original1 = new SortedList<>();
+        SortedList<Integer> original2 = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        random.ints(random.nextInt(11) +15)
+                .forEach(original1::add);
+        random.ints(random.nextInt(11) +15, 0, 5)
+                .forEach(original2::add);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        WritableByteChannel output = Channels.newChannel(bytes);
+        original1.writeTo(output, ElementCodec.INTEGER);
+        original2.writeTo(output, ElementCodec.INTEGER);
+
+        ReadableByteChannel input = Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+        SortedList<Integer> restored1 = new SortedList<>();
+        restored1.readFrom(input, ElementCodec.INTEGER);
+        SortedList<Integer> restored2 = new SortedList<>(Comparator.comparingInt(Integer::intValue), true);
+        restored2.readFrom(input, ElementCodec.INTEGER);
+
+        Assertions.assertEquals(original1, restored1);
+        Assertions.assertEquals(original2, restored2);
+        Assertions.assertEquals(-1, input.read(ByteBuffer.allocate(1)));
+    }
 }